@@ -1,8 +1,12 @@
 package com.github.natanbc.usagetracker;
 
+import com.github.natanbc.usagetracker.histogram.Histogram;
+
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Comparator;
+import java.util.Map;
 import java.util.stream.Stream;
 
 @SuppressWarnings("unused")
@@ -28,6 +32,37 @@ public interface Bucket {
     @Nonnegative
     long amount(UsageTracker<?> tracker);
 
+    /**
+     * Returns a histogram of the values recorded in this bucket for a given tracker.
+     *
+     * @param tracker The tracker to get the values from.
+     *
+     * @return A new histogram with the values in the tracker.
+     *
+     * @implNote The default implementation returns an empty histogram, so buckets that only
+     * count usages still work with the percentile methods, reporting 0 for every tracker.
+     *
+     * @see UsageTracker#record(long)
+     */
+    @Nonnull
+    default Histogram values(UsageTracker<?> tracker) {
+        return tracker.getGroup().createHistogram();
+    }
+
+    /**
+     * Returns the value at the given percentile in this bucket for a given tracker.
+     * <br>This method is equivalent to {@code values(tracker).valueAtPercentile(percentile)}
+     *
+     * @param tracker The tracker to get the values from.
+     * @param percentile Wanted percentile, between 0 and 100.
+     *
+     * @return The value at the given percentile, or 0 if no values were recorded.
+     */
+    @Nonnegative
+    default long valueAtPercentile(UsageTracker<?> tracker, double percentile) {
+        return values(tracker).valueAtPercentile(percentile);
+    }
+
     /**
      * Returns a stream of up to {@code amount} elements from the given stream, sorted from high to low.
      * <br>This method is equivalent to {@code all.sorted(comparator().reversed()).limit(amount)}
@@ -57,4 +92,42 @@ public interface Bucket {
     default <K> Stream<UsageTracker<K>> lowest(@Nonnull Stream<UsageTracker<K>> all, @Nonnegative int amount) {
         return all.sorted(comparator()).limit(amount);
     }
+
+    /**
+     * Returns a stream of up to {@code amount} elements from the given stream, sorted from high to low
+     * value at the given percentile. The percentile of each tracker is only computed once.
+     *
+     * @param all Data to sort. Cannot be null.
+     * @param percentile Wanted percentile, between 0 and 100.
+     * @param amount Maximum number of elements in the returned stream.
+     * @param <K> Type of the keys for the provided trackers.
+     *
+     * @return A stream of up to {@code amount} elements sorted from high to low.
+     */
+    @Nonnull
+    default <K> Stream<UsageTracker<K>> highestByPercentile(@Nonnull Stream<UsageTracker<K>> all, double percentile, @Nonnegative int amount) {
+        return all.map(tracker -> new SimpleImmutableEntry<>(tracker, valueAtPercentile(tracker, percentile)))
+                .sorted(Map.Entry.<UsageTracker<K>, Long>comparingByValue().reversed())
+                .limit(amount)
+                .map(Map.Entry::getKey);
+    }
+
+    /**
+     * Returns a stream of up to {@code amount} elements from the given stream, sorted from low to high
+     * value at the given percentile. The percentile of each tracker is only computed once.
+     *
+     * @param all Data to sort. Cannot be null.
+     * @param percentile Wanted percentile, between 0 and 100.
+     * @param amount Maximum number of elements in the returned stream.
+     * @param <K> Type of the keys for the provided trackers.
+     *
+     * @return A stream of up to {@code amount} elements sorted from low to high.
+     */
+    @Nonnull
+    default <K> Stream<UsageTracker<K>> lowestByPercentile(@Nonnull Stream<UsageTracker<K>> all, double percentile, @Nonnegative int amount) {
+        return all.map(tracker -> new SimpleImmutableEntry<>(tracker, valueAtPercentile(tracker, percentile)))
+                .sorted(Map.Entry.<UsageTracker<K>, Long>comparingByValue())
+                .limit(amount)
+                .map(Map.Entry::getKey);
+    }
 }
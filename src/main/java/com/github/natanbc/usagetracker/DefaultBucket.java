@@ -1,8 +1,12 @@
 package com.github.natanbc.usagetracker;
 
+import com.github.natanbc.usagetracker.histogram.Histogram;
+import com.github.natanbc.usagetracker.histogram.HistogramRingBuffer;
+
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import java.util.Comparator;
+import java.util.function.Function;
 import java.util.function.ToLongFunction;
 
 /**
@@ -10,23 +14,31 @@ import java.util.function.ToLongFunction;
  */
 @SuppressWarnings("unused")
 public enum DefaultBucket implements Bucket {
-    LAST_SECOND(UsageTracker::secondUsages),
-    LAST_MINUTE(UsageTracker::minuteUsages),
-    LAST_5_MINUTES(tracker -> tracker.hourBuffer().sumLast(4) + tracker.minuteUsages()),
-    LAST_15_MINUTES(tracker -> tracker.hourBuffer().sumLast(14) + tracker.minuteUsages()),
-    LAST_30_MINUTES(tracker -> tracker.hourBuffer().sumLast(29) + tracker.minuteUsages()),
-    LAST_HOUR(UsageTracker::hourlyUsages),
-    LAST_2_HOURS(tracker -> tracker.dayBuffer().sumLast(1) + tracker.hourlyUsages()),
-    LAST_6_HOURS(tracker -> tracker.dayBuffer().sumLast(5) + tracker.hourlyUsages()),
-    LAST_12_HOURS(tracker -> tracker.dayBuffer().sumLast(11) + tracker.hourlyUsages()),
-    LAST_DAY(UsageTracker::dailyUsages),
-    TOTAL(UsageTracker::totalUsages);
+    LAST_SECOND(UsageTracker::secondUsages, UsageTracker::secondValues),
+    LAST_MINUTE(UsageTracker::minuteUsages, UsageTracker::minuteValues),
+    LAST_5_MINUTES(tracker -> tracker.hourBuffer().sumLast(4) + tracker.minuteUsages(),
+            tracker -> sumLast(tracker.hourValueBuffer(), 4, tracker.minuteValues())),
+    LAST_15_MINUTES(tracker -> tracker.hourBuffer().sumLast(14) + tracker.minuteUsages(),
+            tracker -> sumLast(tracker.hourValueBuffer(), 14, tracker.minuteValues())),
+    LAST_30_MINUTES(tracker -> tracker.hourBuffer().sumLast(29) + tracker.minuteUsages(),
+            tracker -> sumLast(tracker.hourValueBuffer(), 29, tracker.minuteValues())),
+    LAST_HOUR(UsageTracker::hourlyUsages, UsageTracker::hourlyValues),
+    LAST_2_HOURS(tracker -> tracker.dayBuffer().sumLast(1) + tracker.hourlyUsages(),
+            tracker -> sumLast(tracker.dayValueBuffer(), 1, tracker.hourlyValues())),
+    LAST_6_HOURS(tracker -> tracker.dayBuffer().sumLast(5) + tracker.hourlyUsages(),
+            tracker -> sumLast(tracker.dayValueBuffer(), 5, tracker.hourlyValues())),
+    LAST_12_HOURS(tracker -> tracker.dayBuffer().sumLast(11) + tracker.hourlyUsages(),
+            tracker -> sumLast(tracker.dayValueBuffer(), 11, tracker.hourlyValues())),
+    LAST_DAY(UsageTracker::dailyUsages, UsageTracker::dailyValues),
+    TOTAL(UsageTracker::totalUsages, UsageTracker::totalValues);
 
     private final ToLongFunction<UsageTracker<?>> amountFunction;
+    private final Function<UsageTracker<?>, Histogram> valuesFunction;
     private final Comparator<UsageTracker<?>> comparator;
 
-    DefaultBucket(ToLongFunction<UsageTracker<?>> amountFunction) {
+    DefaultBucket(ToLongFunction<UsageTracker<?>> amountFunction, Function<UsageTracker<?>, Histogram> valuesFunction) {
         this.amountFunction = amountFunction;
+        this.valuesFunction = valuesFunction;
         this.comparator = Comparator.comparingLong(amountFunction);
     }
 
@@ -41,4 +53,14 @@ public enum DefaultBucket implements Bucket {
     public long amount(UsageTracker<?> tracker) {
         return amountFunction.applyAsLong(tracker);
     }
+
+    @Override
+    @Nonnull
+    public Histogram values(UsageTracker<?> tracker) {
+        return valuesFunction.apply(tracker);
+    }
+
+    private static Histogram sumLast(HistogramRingBuffer buffer, int amount, Histogram into) {
+        return buffer == null ? into : buffer.sumLast(amount, into);
+    }
 }
@@ -1,5 +1,7 @@
 package com.github.natanbc.usagetracker;
 
+import com.github.natanbc.usagetracker.histogram.Histogram;
+import com.github.natanbc.usagetracker.histogram.HistogramRingBuffer;
 import com.github.natanbc.usagetracker.ringbuffer.IntRingBuffer;
 import com.github.natanbc.usagetracker.ringbuffer.RingBuffer;
 
@@ -112,7 +114,23 @@ public class TrackerGroup<K> {
      */
     @Nonnull
     public UsageTracker tracker(@Nonnull K key) {
-        return map.computeIfAbsent(key, k -> createTracker(null, k));
+        UsageTracker<K> tracker = map.get(key);
+        if(tracker != null) return tracker;
+        tracker = createTracker(null, key);
+        UsageTracker<K> existing = map.putIfAbsent(key, tracker);
+        return existing == null ? tracker : existing;
+    }
+
+    /**
+     * Returns the tracker for the given key, without creating a new one.
+     *
+     * @param key The identifier of the wanted tracker. Cannot be null.
+     *
+     * @return The tracker for this key, or null if there isn't one.
+     */
+    @Nullable
+    public UsageTracker<K> find(@Nonnull K key) {
+        return map.get(key);
     }
 
     /**
@@ -188,6 +206,8 @@ public class TrackerGroup<K> {
      * @implNote This method does not register the tracker, so it should not be used
      * directly. Use {@link #tracker(Object) tracker(K)} instead. This method is
      * available so subclasses can provide a different tracker implementation.
+     * When multiple threads create the same tracker concurrently, only one of the
+     * created trackers is registered and the others are discarded.
      */
     public UsageTracker<K> createTracker(UsageTracker<K> parent, K key) {
         return new UsageTracker<>(this, parent, key, recursiveIncrements);
@@ -206,4 +226,31 @@ public class TrackerGroup<K> {
     public RingBuffer createRingBuffer(int size) {
         return new IntRingBuffer(size);
     }
+
+    /**
+     * Creates a new, empty histogram for recorded values.
+     *
+     * @return A new histogram.
+     *
+     * @implNote This method should not be used directly, it's available so
+     * subclasses can provide a different histogram precision or range. All histograms
+     * created by a group must have the same precision and range.
+     */
+    public Histogram createHistogram() {
+        return new Histogram();
+    }
+
+    /**
+     * Creates a new histogram ring buffer with a given size.
+     *
+     * @param size Size for the new buffer.
+     *
+     * @return A new histogram ring buffer.
+     *
+     * @implNote This method should not be used directly, it's available so
+     * subclasses can provide a different buffer implementation.
+     */
+    public HistogramRingBuffer createHistogramBuffer(int size) {
+        return new HistogramRingBuffer(size, this::createHistogram);
+    }
 }
@@ -1,5 +1,7 @@
 package com.github.natanbc.usagetracker;
 
+import com.github.natanbc.usagetracker.histogram.Histogram;
+import com.github.natanbc.usagetracker.histogram.HistogramRingBuffer;
 import com.github.natanbc.usagetracker.ringbuffer.RingBuffer;
 
 import javax.annotation.Nonnegative;
@@ -13,6 +15,9 @@ import java.util.concurrent.atomic.AtomicLong;
 /**
  * Tracks usages of a given key for the last second, minute, hour, day and total usages.
  *
+ * <br>Values such as latencies or payload sizes can also be {@link #record(long) recorded},
+ * and are kept in histograms rolled through the same windows.
+ *
  * @param <K> The type of the key used to identify this tracker in it's group.
  *
  * @see TrackerGroup
@@ -29,6 +34,11 @@ public class UsageTracker<K> {
     protected final RingBuffer minute;
     protected final RingBuffer hour;
     protected final RingBuffer day;
+    protected volatile Histogram secondValues;
+    protected volatile Histogram totalValues;
+    protected volatile HistogramRingBuffer minuteValues;
+    protected volatile HistogramRingBuffer hourValues;
+    protected volatile HistogramRingBuffer dayValues;
 
     /**
      * Creates a new usage tracker with a given parent and identifier key.
@@ -100,6 +110,34 @@ public class UsageTracker<K> {
         total.addAndGet(amount);
     }
 
+    /**
+     * Records a value, such as a latency or a payload size, in this tracker's histograms.
+     * This does not change the number of usages in this tracker.
+     *
+     * <br>The histograms are created the first time a value is recorded, so trackers that
+     * only count usages don't pay for them.
+     *
+     * <br>If enabled, also records the value in the parent until the root tracker is updated.
+     *
+     * <br>Values greater than the {@link Histogram#highestTrackableValue() highest trackable value}
+     * of the histograms created by the {@link TrackerGroup#createHistogram() group} are recorded as that value.
+     * The default histograms track every non negative long.
+     *
+     * @param value Value to record. Cannot be negative.
+     */
+    public void record(@Nonnegative long value) {
+        if(value < 0) {
+            throw new IllegalArgumentException("Value may not be negative");
+        }
+        if(recursiveIncrement && parent != null) parent.record(value);
+        Histogram current = secondValues;
+        if(current == null) {
+            current = createHistograms();
+        }
+        current.record(value);
+        totalValues.record(value);
+    }
+
     /**
      * Returns the child tracker for a given key, creating one if needed.
      *
@@ -109,7 +147,23 @@ public class UsageTracker<K> {
      */
     @Nonnull
     public UsageTracker<K> child(K key) {
-        return children.computeIfAbsent(key, k -> group.createTracker(this, key));
+        UsageTracker<K> child = children.get(key);
+        if(child != null) return child;
+        child = group.createTracker(this, key);
+        UsageTracker<K> existing = children.putIfAbsent(key, child);
+        return existing == null ? child : existing;
+    }
+
+    /**
+     * Returns the child tracker for a given key, without creating a new one.
+     *
+     * @param key The child identifier. Cannot be null.
+     *
+     * @return The child tracker for the given key, or null if there isn't one.
+     */
+    @Nullable
+    public UsageTracker<K> findChild(@Nonnull K key) {
+        return children.get(key);
     }
 
     /**
@@ -205,11 +259,124 @@ public class UsageTracker<K> {
         return total.get();
     }
 
+    /**
+     * Returns the buffer containing the values recorded in the last minute.
+     * Each slot corresponds to a second.
+     *
+     * @return The last minute value buffer, or null if no values were ever recorded.
+     */
+    @Nullable
+    public HistogramRingBuffer minuteValueBuffer() {
+        return minuteValues;
+    }
+
+    /**
+     * Returns the buffer containing the values recorded in the last hour.
+     * Each slot corresponds to a minute.
+     *
+     * @return The last hour value buffer, or null if no values were ever recorded.
+     */
+    @Nullable
+    public HistogramRingBuffer hourValueBuffer() {
+        return hourValues;
+    }
+
+    /**
+     * Returns the buffer containing the values recorded in the last day.
+     * Each slot corresponds to an hour.
+     *
+     * @return The last day value buffer, or null if no values were ever recorded.
+     */
+    @Nullable
+    public HistogramRingBuffer dayValueBuffer() {
+        return dayValues;
+    }
+
+    /**
+     * Returns a histogram of the values recorded in the last second.
+     *
+     * @return A new histogram with the values in the last second.
+     */
+    @Nonnull
+    public Histogram secondValues() {
+        Histogram h = group.createHistogram();
+        Histogram current = secondValues;
+        return current == null ? h : h.add(current);
+    }
+
+    /**
+     * Returns a histogram of the values recorded in the last minute.
+     *
+     * @return A new histogram with the values in the last minute.
+     */
+    @Nonnull
+    public Histogram minuteValues() {
+        Histogram h = secondValues();
+        HistogramRingBuffer buffer = minuteValues;
+        return buffer == null ? h : buffer.sumLast(60, h);
+    }
+
+    /**
+     * Returns a histogram of the values recorded in the last hour.
+     *
+     * @return A new histogram with the values in the last hour.
+     */
+    @Nonnull
+    public Histogram hourlyValues() {
+        Histogram h = minuteValues();
+        HistogramRingBuffer buffer = hourValues;
+        return buffer == null ? h : buffer.sumLast(59, h);
+    }
+
+    /**
+     * Returns a histogram of the values recorded in the last day.
+     *
+     * @return A new histogram with the values in the last day.
+     */
+    @Nonnull
+    public Histogram dailyValues() {
+        Histogram h = hourlyValues();
+        HistogramRingBuffer buffer = dayValues;
+        return buffer == null ? h : buffer.sumLast(23, h);
+    }
+
+    /**
+     * Returns a histogram of all the values recorded.
+     *
+     * @return A new histogram with all the values recorded.
+     */
+    @Nonnull
+    public Histogram totalValues() {
+        Histogram h = group.createHistogram();
+        Histogram values = totalValues;
+        return values == null ? h : h.add(values);
+    }
+
+    /**
+     * Creates the histograms used to store recorded values, if they don't exist yet.
+     *
+     * @return The histogram for the current second.
+     */
+    protected synchronized Histogram createHistograms() {
+        if(secondValues == null) {
+            totalValues = group.createHistogram();
+            minuteValues = group.createHistogramBuffer(60);
+            hourValues = group.createHistogramBuffer(60);
+            dayValues = group.createHistogramBuffer(24);
+            secondValues = group.createHistogram();
+        }
+        return secondValues;
+    }
+
     /**
      * Clears the usages in the last second and adds to the minute, replacing the oldest entry.
      */
     protected void rollSecond() {
         minute.put(second.getAndSet(0));
+        Histogram current = secondValues;
+        if(current != null) {
+            minuteValues.put(current.drain());
+        }
         children.values().forEach(UsageTracker::rollSecond);
     }
 
@@ -218,6 +385,9 @@ public class UsageTracker<K> {
      */
     protected void rollMinute() {
         hour.put(minute.sum());
+        if(secondValues != null) {
+            hourValues.put(minuteValues.sumLast(60));
+        }
         children.values().forEach(UsageTracker::rollMinute);
     }
 
@@ -226,6 +396,9 @@ public class UsageTracker<K> {
      */
     protected void rollHour() {
         day.put(hour.sum());
+        if(secondValues != null) {
+            dayValues.put(hourValues.sumLast(60));
+        }
         children.values().forEach(UsageTracker::rollHour);
     }
 }
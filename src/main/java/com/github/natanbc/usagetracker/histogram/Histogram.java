@@ -0,0 +1,337 @@
+package com.github.natanbc.usagetracker.histogram;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe log-linear histogram of non negative values.
+ *
+ * <br>Values are split in powers of two, and each power of two is split in {@code 2^subBucketBits}
+ * linear sub buckets, so the relative error of any value returned is at most {@code 1 / 2^subBucketBits}.
+ * Values smaller than {@code 2^subBucketBits} are tracked exactly, and values greater than the
+ * {@link #highestTrackableValue() highest trackable value} are recorded in the last bucket.
+ *
+ * <br>Recording is allocation free, and histograms with the same precision and range can be merged.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class Histogram {
+    /**
+     * Default number of sub bucket bits, giving a maximum relative error of 12.5%.
+     */
+    public static final int DEFAULT_SUB_BUCKET_BITS = 3;
+
+    /**
+     * Default highest trackable value, covering every non negative long so no value is ever saturated.
+     */
+    public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = Long.MAX_VALUE;
+
+    protected final AtomicLong count = new AtomicLong();
+    protected final int subBucketBits;
+    protected final int subBucketCount;
+    protected final long highestTrackableValue;
+    protected final AtomicLongArray counts;
+
+    /**
+     * Creates a new histogram with a given precision and range.
+     *
+     * @param subBucketBits Number of bits used for the linear sub buckets of each power of two. Must be between 1 and 7.
+     * @param highestTrackableValue Highest value tracked with the given precision. Must be positive.
+     *                              Lower values use less memory, but greater values are all
+     *                              recorded in the last bucket.
+     */
+    public Histogram(@Nonnegative int subBucketBits, @Nonnegative long highestTrackableValue) {
+        if(subBucketBits < 1 || subBucketBits > 7) {
+            throw new IllegalArgumentException("Sub bucket bits must be between 1 and 7");
+        }
+        if(highestTrackableValue < 1) {
+            throw new IllegalArgumentException("Highest trackable value must be positive");
+        }
+        this.subBucketBits = subBucketBits;
+        this.subBucketCount = 1 << subBucketBits;
+        this.highestTrackableValue = highestTrackableValue;
+        this.counts = new AtomicLongArray(bucketIndex(highestTrackableValue) + 1);
+    }
+
+    /**
+     * Creates a new histogram with a given precision and the {@link #DEFAULT_HIGHEST_TRACKABLE_VALUE default} range.
+     *
+     * @param subBucketBits Number of bits used for the linear sub buckets of each power of two. Must be between 1 and 7.
+     */
+    public Histogram(@Nonnegative int subBucketBits) {
+        this(subBucketBits, DEFAULT_HIGHEST_TRACKABLE_VALUE);
+    }
+
+    /**
+     * Creates a new histogram with the {@link #DEFAULT_SUB_BUCKET_BITS default} precision
+     * and {@link #DEFAULT_HIGHEST_TRACKABLE_VALUE default} range.
+     */
+    public Histogram() {
+        this(DEFAULT_SUB_BUCKET_BITS, DEFAULT_HIGHEST_TRACKABLE_VALUE);
+    }
+
+    /**
+     * Returns the number of sub bucket bits used by this histogram.
+     *
+     * @return The number of sub bucket bits.
+     */
+    @CheckReturnValue
+    @Nonnegative
+    public int subBucketBits() {
+        return subBucketBits;
+    }
+
+    /**
+     * Returns the highest value tracked with this histogram's precision.
+     *
+     * @return The highest trackable value.
+     */
+    @CheckReturnValue
+    @Nonnegative
+    public long highestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    /**
+     * Returns the number of buckets in this histogram.
+     *
+     * @return The number of buckets.
+     */
+    @CheckReturnValue
+    @Nonnegative
+    public int bucketCount() {
+        return counts.length();
+    }
+
+    /**
+     * Records a value in this histogram.
+     *
+     * @param value The value to record. Values greater than the {@link #highestTrackableValue() highest trackable value}
+     *              are recorded in the last bucket.
+     */
+    public void record(@Nonnegative long value) {
+        record(value, 1);
+    }
+
+    /**
+     * Records a value in this histogram a given number of times.
+     *
+     * @param value The value to record. Values greater than the {@link #highestTrackableValue() highest trackable value}
+     *              are recorded in the last bucket.
+     * @param times How many times the value should be recorded.
+     */
+    public void record(@Nonnegative long value, @Nonnegative long times) {
+        if(value < 0) {
+            throw new IllegalArgumentException("Value may not be negative");
+        }
+        if(times < 0) {
+            throw new IllegalArgumentException("Times may not be negative");
+        }
+        //count first, so a concurrent drain never makes it negative
+        count.addAndGet(times);
+        counts.addAndGet(bucketIndex(Math.min(value, highestTrackableValue)), times);
+    }
+
+    /**
+     * Returns the number of values recorded in this histogram.
+     *
+     * @return The number of values recorded.
+     */
+    @CheckReturnValue
+    @Nonnegative
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * Returns the number of values recorded in a given bucket.
+     *
+     * @param index Index of the bucket.
+     *
+     * @return The number of values recorded in the bucket.
+     */
+    @CheckReturnValue
+    @Nonnegative
+    public long countAt(@Nonnegative int index) {
+        return counts.get(index);
+    }
+
+    /**
+     * Returns the index of the bucket a value is recorded in.
+     *
+     * @param value The value.
+     *
+     * @return The index of the bucket for the value.
+     */
+    @CheckReturnValue
+    @Nonnegative
+    public int bucketIndex(@Nonnegative long value) {
+        if(value < subBucketCount) {
+            return (int)value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - subBucketBits;
+        return ((shift + 1) << subBucketBits) + (int)((value >>> shift) - subBucketCount);
+    }
+
+    /**
+     * Returns the lowest value recorded in a given bucket.
+     *
+     * @param index Index of the bucket.
+     *
+     * @return The lowest value that maps to the bucket.
+     */
+    @CheckReturnValue
+    @Nonnegative
+    public long lowestValueAt(@Nonnegative int index) {
+        if(index < subBucketCount) {
+            return index;
+        }
+        int shift = (index >> subBucketBits) - 1;
+        return (long)(subBucketCount + (index & (subBucketCount - 1))) << shift;
+    }
+
+    /**
+     * Returns the highest value recorded in a given bucket.
+     *
+     * @param index Index of the bucket.
+     *
+     * @return The highest value that maps to the bucket.
+     */
+    @CheckReturnValue
+    @Nonnegative
+    public long highestValueAt(@Nonnegative int index) {
+        if(index < subBucketCount) {
+            return index;
+        }
+        int shift = (index >> subBucketBits) - 1;
+        return lowestValueAt(index) + (1L << shift) - 1;
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded values are.
+     *
+     * <br>The returned value is the highest value of the bucket the percentile falls in.
+     *
+     * @param percentile Wanted percentile, between 0 and 100.
+     *
+     * @return The value at the given percentile, or 0 if this histogram is empty.
+     */
+    @CheckReturnValue
+    @Nonnegative
+    public long valueAtPercentile(double percentile) {
+        if(percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        long total = count.get();
+        if(total == 0) return 0;
+        long target = Math.max(1, (long)Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        int last = 0;
+        for(int i = 0, len = counts.length(); i < len; i++) {
+            long c = counts.get(i);
+            if(c == 0) continue;
+            last = i;
+            seen += c;
+            if(seen >= target) {
+                return highestValueAt(i);
+            }
+        }
+        //concurrent recording may make the count ahead of the buckets
+        return highestValueAt(last);
+    }
+
+    /**
+     * Adds all values in a snapshot to this histogram.
+     *
+     * @param other Snapshot to merge. Must come from a histogram with the same precision and range as this one.
+     *
+     * @return This histogram.
+     */
+    @Nonnull
+    public Histogram add(@Nonnull HistogramSnapshot other) {
+        if(other.subBucketBits != subBucketBits || other.bucketCount != counts.length()) {
+            throw new IllegalArgumentException("Snapshot must have the same sub bucket bits and bucket count");
+        }
+        count.addAndGet(other.count);
+        for(int i = 0; i < other.indexes.length; i++) {
+            counts.addAndGet(other.indexes[i], other.counts[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Adds all values recorded in another histogram to this one.
+     *
+     * @param other Histogram to merge. Must have the same precision and range as this one.
+     *
+     * @return This histogram.
+     */
+    @Nonnull
+    public Histogram add(@Nonnull Histogram other) {
+        checkCompatible(other);
+        long added = 0;
+        for(int i = 0, len = counts.length(); i < len; i++) {
+            long c = other.counts.get(i);
+            if(c != 0) {
+                counts.addAndGet(i, c);
+                added += c;
+            }
+        }
+        count.addAndGet(added);
+        return this;
+    }
+
+    /**
+     * Moves all values recorded in this histogram to a new snapshot, leaving this one empty.
+     *
+     * <br>Values recorded concurrently are either moved or kept in this histogram, never lost.
+     * This method should not be called concurrently with itself or {@link #clear()}.
+     *
+     * @return A snapshot with the moved values, or null if this histogram was empty.
+     */
+    @Nullable
+    public HistogramSnapshot drain() {
+        if(count.get() == 0) return null;
+        int len = counts.length();
+        int n = 0;
+        for(int i = 0; i < len; i++) {
+            if(counts.get(i) != 0) n++;
+        }
+        if(n == 0) return null;
+        int[] indexes = new int[n];
+        long[] values = new long[n];
+        long moved = 0;
+        //buckets that became non empty after counting are left for the next drain
+        for(int i = 0, j = 0; i < len && j < n; i++) {
+            if(counts.get(i) == 0) continue;
+            long c = counts.getAndSet(i, 0);
+            indexes[j] = i;
+            values[j] = c;
+            moved += c;
+            j++;
+        }
+        count.addAndGet(-moved);
+        return new HistogramSnapshot(subBucketBits, len, indexes, values, moved);
+    }
+
+    /**
+     * Removes all values recorded in this histogram.
+     *
+     * <br>Values recorded concurrently with this call may be lost, use {@link #drain()} when that's an issue.
+     */
+    public void clear() {
+        for(int i = 0, len = counts.length(); i < len; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+    }
+
+    protected void checkCompatible(Histogram other) {
+        if(other.subBucketBits != subBucketBits || other.counts.length() != counts.length()) {
+            throw new IllegalArgumentException("Histograms must have the same sub bucket bits and bucket count");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.natanbc.usagetracker.histogram;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Ring buffer of histogram slots. Each slot is a sparse {@link HistogramSnapshot snapshot},
+ * and empty slots are stored as null, so buffers only use memory for the values actually recorded.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class HistogramRingBuffer {
+    protected final AtomicInteger index = new AtomicInteger();
+    protected final Supplier<Histogram> factory;
+    protected final int size;
+    protected final HistogramSnapshot[] array;
+
+    /**
+     * Creates a new histogram ring buffer with a given size.
+     *
+     * @param size Size for the new buffer.
+     * @param factory Factory used to create the histograms returned by {@link #sum()}. Cannot be null.
+     */
+    public HistogramRingBuffer(@Nonnegative int size, @Nonnull Supplier<Histogram> factory) {
+        this.size = size;
+        this.factory = factory;
+        this.array = new HistogramSnapshot[size];
+    }
+
+    /**
+     * Returns the size of this buffer. After {@code size} slots are added,
+     * any new slots will replace the oldest one.
+     *
+     * @return The size of this buffer.
+     */
+    @CheckReturnValue
+    @Nonnegative
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a new slot to this buffer, replacing the oldest slot present.
+     *
+     * @param value The values for the new slot. May be null, if there are no values.
+     */
+    public void put(@Nullable HistogramSnapshot value) {
+        array[index.getAndIncrement() % size] = value;
+    }
+
+    /**
+     * Merges all the slots in this buffer into a new histogram.
+     *
+     * @return The merge of all slots in this buffer.
+     */
+    @CheckReturnValue
+    @Nonnull
+    public Histogram sum() {
+        return sumLast(size, factory.get());
+    }
+
+    /**
+     * Merges the last {@code amount} slots in this buffer into a new snapshot.
+     *
+     * @param amount How many slots to merge. If greater than {@link #size() size},
+     *               the size is used instead.
+     *
+     * @return The merge of the slots, or null if all of them are empty.
+     */
+    @CheckReturnValue
+    @Nullable
+    public HistogramSnapshot sumLast(@Nonnegative int amount) {
+        int nextIdx = index.get();
+        int lastIdx = (nextIdx - 1) % size;
+        long[] buckets = null;
+        int subBucketBits = 0;
+        for(int i = 0, amt = Math.min(amount, size); i < amt; i++) {
+            int idx = lastIdx - i;
+            if(idx < 0) {
+                idx += size;
+            }
+            HistogramSnapshot slot = array[idx];
+            if(slot != null) {
+                if(buckets == null) {
+                    buckets = new long[slot.bucketCount()];
+                    subBucketBits = slot.subBucketBits();
+                }
+                slot.addTo(buckets);
+            }
+        }
+        return buckets == null ? null : HistogramSnapshot.of(subBucketBits, buckets);
+    }
+
+    /**
+     * Merges the last {@code amount} slots in this buffer into a given histogram.
+     *
+     * @param amount How many slots to merge. If greater than {@link #size() size},
+     *               the size is used instead.
+     * @param into Histogram to merge the slots into. Cannot be null.
+     *
+     * @return The histogram given as {@code into}.
+     */
+    @Nonnull
+    public Histogram sumLast(@Nonnegative int amount, @Nonnull Histogram into) {
+        int nextIdx = index.get();
+        int lastIdx = (nextIdx - 1) % size;
+        for(int i = 0, amt = Math.min(amount, size); i < amt; i++) {
+            int idx = lastIdx - i;
+            if(idx < 0) {
+                idx += size;
+            }
+            HistogramSnapshot slot = array[idx];
+            if(slot != null) {
+                into.add(slot);
+            }
+        }
+        return into;
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.natanbc.usagetracker.histogram;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Immutable, sparse copy of the values in a {@link Histogram Histogram}.
+ *
+ * <br>Only the non empty buckets are stored, so snapshots are used for the slots of
+ * {@link HistogramRingBuffer HistogramRingBuffer}s, which are never written after being created.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class HistogramSnapshot {
+    protected final int subBucketBits;
+    protected final int bucketCount;
+    protected final long count;
+    protected final int[] indexes;
+    protected final long[] counts;
+
+    /**
+     * Creates a new snapshot with the given non empty buckets.
+     *
+     * @param subBucketBits Number of sub bucket bits of the histogram this snapshot belongs to.
+     * @param bucketCount Number of buckets of the histogram this snapshot belongs to.
+     * @param indexes Indexes of the non empty buckets, in ascending order. Cannot be null.
+     * @param counts Number of values in each of the non empty buckets. Cannot be null.
+     * @param count Total number of values in this snapshot.
+     */
+    public HistogramSnapshot(@Nonnegative int subBucketBits, @Nonnegative int bucketCount,
+                             @Nonnull int[] indexes, @Nonnull long[] counts, @Nonnegative long count) {
+        if(indexes.length != counts.length) {
+            throw new IllegalArgumentException("Indexes and counts must have the same length");
+        }
+        this.subBucketBits = subBucketBits;
+        this.bucketCount = bucketCount;
+        this.indexes = indexes;
+        this.counts = counts;
+        this.count = count;
+    }
+
+    /**
+     * Creates a snapshot from an array with the number of values in each bucket.
+     *
+     * @param subBucketBits Number of sub bucket bits of the histogram this snapshot belongs to.
+     * @param buckets Number of values in each bucket. Cannot be null.
+     *
+     * @return A snapshot with the non empty buckets, or null if all buckets are empty.
+     */
+    @CheckReturnValue
+    @Nullable
+    public static HistogramSnapshot of(@Nonnegative int subBucketBits, @Nonnull long[] buckets) {
+        int n = 0;
+        for(long c : buckets) {
+            if(c != 0) n++;
+        }
+        if(n == 0) return null;
+        int[] indexes = new int[n];
+        long[] counts = new long[n];
+        long count = 0;
+        for(int i = 0, j = 0; j < n; i++) {
+            long c = buckets[i];
+            if(c == 0) continue;
+            indexes[j] = i;
+            counts[j] = c;
+            count += c;
+            j++;
+        }
+        return new HistogramSnapshot(subBucketBits, buckets.length, indexes, counts, count);
+    }
+
+    /**
+     * Returns the number of sub bucket bits of the histogram this snapshot belongs to.
+     *
+     * @return The number of sub bucket bits.
+     */
+    @CheckReturnValue
+    @Nonnegative
+    public int subBucketBits() {
+        return subBucketBits;
+    }
+
+    /**
+     * Returns the number of buckets of the histogram this snapshot belongs to.
+     *
+     * @return The number of buckets.
+     */
+    @CheckReturnValue
+    @Nonnegative
+    public int bucketCount() {
+        return bucketCount;
+    }
+
+    /**
+     * Returns the number of values in this snapshot.
+     *
+     * @return The number of values.
+     */
+    @CheckReturnValue
+    @Nonnegative
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Adds the values in this snapshot to an array with the number of values in each bucket.
+     *
+     * @param buckets Array to add the values to. Must have {@link #bucketCount() bucketCount} elements.
+     */
+    public void addTo(@Nonnull long[] buckets) {
+        if(buckets.length != bucketCount) {
+            throw new IllegalArgumentException("Array must have " + bucketCount + " elements");
+        }
+        for(int i = 0; i < indexes.length; i++) {
+            buckets[indexes[i]] += counts[i];
+        }
+    }
+}